@@ -5,8 +5,9 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 public class CoExistenceClient {
     public static void main(String[] args) {
-        String hostname = "localhost";
-        int port = 35754;
+        // Optional arguments so the client can target the gateway or a specific server
+        String hostname = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 35754;
 
         try (
                 Socket socket = new Socket(hostname, port);
@@ -32,7 +33,7 @@ public class CoExistenceClient {
                                 running.set(false); // Stop the reader thread
                                 System.exit(0); // Exit the program
                             }
-                            System.out.print("Enter move (e.g. AB to attack from A to B, or PS to pass): ");
+                            System.out.print("Enter move (e.g. AB to attack from A to B, or PS/PASS to pass): ");
                         }
                         Thread.sleep(50); // Small delay to prevent CPU overuse
                     }
@@ -0,0 +1,318 @@
+import java.io.*;
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.*;
+
+public class CoExistenceGateway {
+    private static final int HEALTH_CHECK_INTERVAL_MS = 2000;
+    private static final int BACKEND_TIMEOUT_MS = 1000;
+
+    // The ring holds only the healthy backends
+    private static final ConsistentHashRing<Backend> ring = new ConsistentHashRing<>();
+
+    // The server pairs connections purely by accept order, so when only the first connection of
+    // a game got through, it is kept open here until a filler connection completes that pair;
+    // until then the backend stays out of the ring or every later game on it would be off by one.
+    // This map is also the lock for every change to backends and to ring membership
+    private static final Map<Backend, SocketChannel> unpaired = new HashMap<>();
+
+    // Every backend we know about, guarded by unpaired
+    private static final List<Backend> backends = new ArrayList<>();
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: CoExistenceGateway <port> <host:port[:healthPort]> ...");
+            return;
+        }
+
+        int port = Integer.parseInt(args[0]);
+        for (int i = 1; i < args.length; i++) {
+            addBackend(Backend.parse(args[i]));
+        }
+
+        startHealthChecker();
+        startConsole();
+
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+            serverChannel.bind(new InetSocketAddress(port));
+            System.out.println("Gateway running on port " + port + "...");
+
+            long sessionId = 0;
+            while (true) {
+                // Pair clients here, the same way the server does, so both players
+                // of one game are sent to the same backend
+                System.out.println("Waiting for Player 1...");
+                SocketChannel p1 = serverChannel.accept();
+                System.out.println("Player 1 connected.");
+
+                System.out.println("Waiting for Player 2...");
+                SocketChannel p2 = serverChannel.accept();
+                System.out.println("Player 2 connected.");
+
+                sessionId++;
+                if (!routeSession(sessionId, p1, p2)) {
+                    System.out.println("No backend available for session " + sessionId + ".");
+                    p1.close();
+                    p2.close();
+                }
+            }
+
+        } catch (Exception e) {
+            System.out.println("Gateway error: " + e.getMessage());
+        }
+    }
+
+    private static boolean routeSession(long sessionId, SocketChannel p1, SocketChannel p2) {
+        // Try the owner of the session first and walk the ring if it is unreachable
+        for (Backend backend : ring.nodesFor("session-" + sessionId)) {
+            SocketChannel b1 = null;
+            try {
+                // Connect in player order so the backend pairs them as Player 1 and Player 2
+                b1 = connect(backend.gameAddress());
+                SocketChannel b2 = connect(backend.gameAddress());
+
+                System.out.println("Session " + sessionId + " routed to " + backend + ".");
+                SocketSplicer.splice(p1, b1);
+                SocketSplicer.splice(p2, b2);
+                return true;
+            } catch (IOException e) {
+                System.out.println("Backend " + backend + " unreachable: " + e.getMessage());
+                synchronized (unpaired) {
+                    if (b1 != null && backends.contains(backend)) {
+                        unpaired.put(backend, b1);
+                    } else if (b1 != null) {
+                        closeQuietly(b1);
+                    }
+                    markDown(backend);
+                }
+            }
+        }
+        return false;
+    }
+
+    // Connects with a timeout so an unreachable machine cannot stall pairing for the OS connect timeout
+    private static SocketChannel connect(InetSocketAddress address) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.socket().connect(address, BACKEND_TIMEOUT_MS);
+            return channel;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Completes the pair left behind by a half-routed game so the backend starts the next game
+    // with a clean pairing state; the server ends that game as soon as it finds both players gone.
+    // Runs without holding unpaired, since the filler connect can take up to BACKEND_TIMEOUT_MS
+    private static boolean completePair(Backend backend, SocketChannel first) {
+        if (isClosedByPeer(first)) {
+            // The backend restarted and already forgot this connection, a filler would become its Player 1
+            closeQuietly(first);
+            return true;
+        }
+        try {
+            closeQuietly(connect(backend.gameAddress()));
+            closeQuietly(first);
+            System.out.println("Backend " + backend + " pairing restored.");
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // The server sends nothing before both players are paired, so any read result other than
+    // "no data yet" means the other end has gone away
+    private static boolean isClosedByPeer(SocketChannel channel) {
+        try {
+            channel.configureBlocking(false);
+            return channel.read(ByteBuffer.allocate(1)) != 0;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.out.println("Error closing channel: " + e.getMessage());
+        }
+    }
+
+    private static void addBackend(Backend backend) {
+        synchronized (unpaired) {
+            if (backends.contains(backend)) {
+                return;
+            }
+            backends.add(backend);
+            ring.add(backend);
+        }
+        System.out.println("Backend " + backend + " added.");
+    }
+
+    private static void removeBackend(Backend backend) {
+        synchronized (unpaired) {
+            backends.remove(backend);
+            ring.remove(backend);
+            // An operator removing a backend takes it out for good, so its half pair is not repaired
+            SocketChannel first = unpaired.remove(backend);
+            if (first != null) {
+                closeQuietly(first);
+            }
+        }
+        System.out.println("Backend " + backend + " removed.");
+    }
+
+    private static void markDown(Backend backend) {
+        if (ring.contains(backend)) {
+            ring.remove(backend);
+            System.out.println("Backend " + backend + " is down.");
+        }
+    }
+
+    private static void markUp(Backend backend) {
+        if (!ring.contains(backend)) {
+            ring.add(backend);
+            System.out.println("Backend " + backend + " is up.");
+        }
+    }
+
+    // Periodically probes each backend's health port; only new games are affected
+    // when a backend leaves or rejoins the ring, games already running keep their connection
+    private static void startHealthChecker() {
+        Thread healthThread = new Thread(() -> {
+            while (true) {
+                List<Backend> snapshot;
+                synchronized (unpaired) {
+                    snapshot = new ArrayList<>(backends);
+                }
+                for (Backend backend : snapshot) {
+                    if (isHealthy(backend)) {
+                        SocketChannel first;
+                        synchronized (unpaired) {
+                            first = unpaired.get(backend);
+                        }
+                        boolean repaired = first == null || completePair(backend, first);
+
+                        // Routing or the console may have changed things during the repair: a backend
+                        // removed meanwhile must stay out, and so must one that got a new half pair
+                        synchronized (unpaired) {
+                            if (repaired && first != null && unpaired.get(backend) == first) {
+                                unpaired.remove(backend);
+                            }
+                            if (backends.contains(backend) && !unpaired.containsKey(backend)) {
+                                markUp(backend);
+                            }
+                        }
+                    } else {
+                        synchronized (unpaired) {
+                            markDown(backend);
+                        }
+                    }
+                }
+
+                try {
+                    Thread.sleep(HEALTH_CHECK_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        healthThread.setDaemon(true);
+        healthThread.start();
+    }
+
+    private static boolean isHealthy(Backend backend) {
+        try (Socket probe = new Socket()) {
+            probe.connect(backend.healthAddress(), BACKEND_TIMEOUT_MS);
+            probe.setSoTimeout(BACKEND_TIMEOUT_MS);
+            BufferedReader in = new BufferedReader(new InputStreamReader(probe.getInputStream()));
+            return "OK".equals(in.readLine());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // Reads "add host:port[:healthPort]", "remove host:port" and "list" from standard input
+    private static void startConsole() {
+        Thread consoleThread = new Thread(() -> {
+            Scanner scanner = new Scanner(System.in);
+            while (scanner.hasNextLine()) {
+                String[] parts = scanner.nextLine().trim().split("\\s+");
+                try {
+                    if (parts[0].equalsIgnoreCase("add") && parts.length == 2) {
+                        addBackend(Backend.parse(parts[1]));
+                    } else if (parts[0].equalsIgnoreCase("remove") && parts.length == 2) {
+                        removeBackend(Backend.parse(parts[1]));
+                    } else if (parts[0].equalsIgnoreCase("list")) {
+                        synchronized (unpaired) {
+                            for (Backend backend : backends) {
+                                System.out.println(backend + (ring.contains(backend) ? " up" : " down"));
+                            }
+                        }
+                    } else if (!parts[0].isEmpty()) {
+                        System.out.println("Commands: add host:port[:healthPort], remove host:port, list");
+                    }
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Invalid backend: " + e.getMessage());
+                }
+            }
+        });
+        consoleThread.setDaemon(true);
+        consoleThread.start();
+    }
+
+    static class Backend {
+        private final String host;
+        private final int port;
+        private final int healthPort;
+
+        Backend(String host, int port, int healthPort) {
+            this.host = host;
+            this.port = port;
+            this.healthPort = healthPort;
+        }
+
+        // Parses host:port[:healthPort]; the health port defaults to port + 1 like the server
+        static Backend parse(String spec) {
+            String[] parts = spec.split(":");
+            if (parts.length < 2 || parts.length > 3) {
+                throw new IllegalArgumentException(spec);
+            }
+            int port = Integer.parseInt(parts[1]);
+            int healthPort = parts.length == 3 ? Integer.parseInt(parts[2]) : port + 1;
+            return new Backend(parts[0], port, healthPort);
+        }
+
+        InetSocketAddress gameAddress() {
+            return new InetSocketAddress(host, port);
+        }
+
+        InetSocketAddress healthAddress() {
+            return new InetSocketAddress(host, healthPort);
+        }
+
+        // The health port is not part of the identity, so "remove host:port" matches
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Backend)) {
+                return false;
+            }
+            Backend other = (Backend) o;
+            return host.equals(other.host) && port == other.port;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(host, port);
+        }
+
+        @Override
+        public String toString() {
+            return host + ":" + port;
+        }
+    }
+}
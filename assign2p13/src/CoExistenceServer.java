@@ -1,9 +1,18 @@
+import java.io.*;
 import java.net.*;
 
 public class CoExistenceServer {
     public static void main(String[] args) {
-        int port = 35754;
+        // Optional arguments so several servers can run side by side behind the gateway
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 35754;
+        int healthPort = args.length > 1 ? Integer.parseInt(args[1]) : port + 1;
+
+        startHealthListener(healthPort);
+
         try (ServerSocket serverSocket = new ServerSocket(port)) {
+            // Rules are compiled once and shared read-only by every game session
+            GameRules rules = args.length > 2 ? GameRules.load(args[2]) : GameRules.standard();
+
             System.out.println("Server running on port " + port + "...");
 
             while (true) {
@@ -15,11 +24,33 @@ public class CoExistenceServer {
                 Socket p2 = serverSocket.accept();
                 System.out.println("Player 2 connected. Starting game session...");
 
-                new GameSessionThread(p1, p2).start();
+                new GameSessionThread(p1, p2, rules).start();
             }
 
         } catch (Exception e) {
             System.out.println("Server error: " + e.getMessage());
         }
     }
+
+    // Answers "OK" on a separate port so the gateway can probe us without
+    // being mistaken for a player on the game port
+    private static void startHealthListener(int healthPort) {
+        Thread healthThread = new Thread(() -> {
+            try (ServerSocket healthSocket = new ServerSocket(healthPort)) {
+                System.out.println("Health check on port " + healthPort + "...");
+                while (true) {
+                    try (Socket probe = healthSocket.accept();
+                            PrintWriter out = new PrintWriter(probe.getOutputStream(), true)) {
+                        out.println("OK");
+                    } catch (IOException e) {
+                        // A failed probe only affects that probe
+                    }
+                }
+            } catch (IOException e) {
+                System.out.println("Health check error: " + e.getMessage());
+            }
+        });
+        healthThread.setDaemon(true);
+        healthThread.start();
+    }
 }
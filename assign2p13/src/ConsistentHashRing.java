@@ -0,0 +1,61 @@
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+class ConsistentHashRing<T> {
+    // Each node is placed on the ring several times so keys spread evenly
+    private static final int VIRTUAL_NODES = 100;
+
+    private final TreeMap<Long, T> ring = new TreeMap<>();
+
+    public synchronized void add(T node) {
+        for (int i = 0; i < VIRTUAL_NODES; i++) {
+            ring.put(hash(node + "#" + i), node);
+        }
+    }
+
+    public synchronized void remove(T node) {
+        for (int i = 0; i < VIRTUAL_NODES; i++) {
+            ring.remove(hash(node + "#" + i), node);
+        }
+    }
+
+    public synchronized boolean contains(T node) {
+        return ring.containsValue(node);
+    }
+
+    // Returns the distinct nodes in ring order starting from the owner of the key,
+    // so callers can fall back to the next node if the owner is unreachable
+    public synchronized List<T> nodesFor(String key) {
+        List<T> nodes = new ArrayList<>();
+        if (ring.isEmpty()) {
+            return nodes;
+        }
+
+        long h = hash(key);
+        Collection<T> tail = ring.tailMap(h).values();
+        Collection<T> head = ring.headMap(h).values();
+        for (Collection<T> part : Arrays.asList(tail, head)) {
+            for (T node : part) {
+                if (!nodes.contains(node)) {
+                    nodes.add(node);
+                }
+            }
+        }
+        return nodes;
+    }
+
+    private static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            long h = 0;
+            for (int i = 0; i < 8; i++) {
+                h = (h << 8) | (digest[i] & 0xFF);
+            }
+            return h;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+}
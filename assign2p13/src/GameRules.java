@@ -0,0 +1,229 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.regex.*;
+
+class GameRules {
+    // Unit id 0 is the empty slot, real units are numbered from 1 in definition order
+    public static final int EMPTY = 0;
+    public static final int MAX_COLUMNS = 26;
+
+    private static final Pattern UNIT_LINE = Pattern
+            .compile("unit\\s+(\\S+)\\s+(\\d+)\\s+\"(.{3})\"\\s+\"(.{3})\"\\s+\"(.{3})\"");
+
+    // The original game, written in the same format a rules file uses
+    private static final String[] STANDARD = {
+            "columns 6",
+            "win-score 9",
+            "last-round 5",
+            "unit AXE 3 \"<7>\" \" I \" \" L \"",
+            "unit HAMMER 3 \"[=]\" \" | \" \" | \"",
+            "unit SWORD 3 \"  /\" \" / \" \"X  \"",
+            "unit ARROW 3 \" ^ \" \" | \" \"/^\\\"",
+            // Arrow can eliminate any unit, and any unit can eliminate arrow, for no points
+            "beats ARROW * 0",
+            "beats * ARROW 0",
+            // AXE cuts through the handle of the hammer, HAMMER overwhelms the sword,
+            // SWORD dances about the axe
+            "beats AXE HAMMER 1",
+            "beats HAMMER SWORD 1",
+            "beats SWORD AXE 1",
+    };
+
+    private final int columns;
+    private final int winScore;
+    private final int lastRound;
+
+    // Compiled tables, indexed by unit id; the matrices are flattened as [attacker * stride + defender]
+    private final int stride;
+    private final String[] names;
+    private final String[][] cardLines;
+    private final boolean[] defeats;
+    private final int[] points;
+    private final int[] deck;
+
+    private GameRules(int columns, int winScore, int lastRound, List<String> unitNames, List<String[]> unitArt,
+            List<Integer> unitCounts, List<int[]> beats) {
+        this.columns = columns;
+        this.winScore = winScore;
+        this.lastRound = lastRound;
+        this.stride = unitNames.size() + 1;
+
+        names = new String[stride];
+        names[EMPTY] = "EMPTY";
+        cardLines = new String[3][stride];
+        for (int line = 0; line < 3; line++) {
+            cardLines[line][EMPTY] = "|   |";
+        }
+        int deckSize = 0;
+        for (int u = 1; u < stride; u++) {
+            names[u] = unitNames.get(u - 1);
+            for (int line = 0; line < 3; line++) {
+                cardLines[line][u] = "|" + unitArt.get(u - 1)[line] + "|";
+            }
+            deckSize += unitCounts.get(u - 1);
+        }
+
+        // Cards are laid out one of each unit at a time, as the original deck was built,
+        // so a seeded shuffle deals the same boards as before
+        deck = new int[deckSize];
+        int next = 0;
+        for (int copy = 0; next < deckSize; copy++) {
+            for (int u = 1; u < stride; u++) {
+                if (copy < unitCounts.get(u - 1)) {
+                    deck[next++] = u;
+                }
+            }
+        }
+
+        // The empty row and column stay false, so an empty slot never attacks or gets taken
+        defeats = new boolean[stride * stride];
+        points = new int[stride * stride];
+        for (int[] rule : beats) {
+            for (int atk = 1; atk < stride; atk++) {
+                for (int def = 1; def < stride; def++) {
+                    if ((rule[0] == -1 || rule[0] == atk) && (rule[1] == -1 || rule[1] == def)) {
+                        defeats[atk * stride + def] = true;
+                        points[atk * stride + def] = rule[2];
+                    }
+                }
+            }
+        }
+    }
+
+    public static GameRules standard() {
+        return parse(Arrays.asList(STANDARD));
+    }
+
+    public static GameRules load(String path) throws IOException {
+        return parse(Files.readAllLines(Paths.get(path)));
+    }
+
+    // One rule per line, # starts a comment:
+    //   columns N, win-score N, last-round N
+    //   unit NAME COUNT "art" "art" "art"   the three 3-character lines of the card
+    //   beats ATTACKER DEFENDER POINTS      * matches any unit, later beats lines win
+    public static GameRules parse(List<String> lines) {
+        int columns = 6, winScore = 9, lastRound = 5;
+        List<String> unitNames = new ArrayList<>();
+        List<String[]> unitArt = new ArrayList<>();
+        List<Integer> unitCounts = new ArrayList<>();
+        List<String[]> beatsLines = new ArrayList<>();
+
+        for (String raw : lines) {
+            String line = raw.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            String[] words = line.split("\\s+");
+            try {
+                switch (words[0]) {
+                    case "columns":
+                        columns = Integer.parseInt(words[1]);
+                        break;
+                    case "win-score":
+                        winScore = Integer.parseInt(words[1]);
+                        break;
+                    case "last-round":
+                        lastRound = Integer.parseInt(words[1]);
+                        break;
+                    case "unit":
+                        Matcher unit = UNIT_LINE.matcher(line);
+                        if (!unit.matches()) {
+                            throw new IllegalArgumentException("Expected unit NAME COUNT \"art\" \"art\" \"art\": " + line);
+                        }
+                        String name = unit.group(1).toUpperCase();
+                        if (name.equals("*") || name.equals("EMPTY") || unitNames.contains(name)) {
+                            throw new IllegalArgumentException("Invalid unit name: " + line);
+                        }
+                        unitNames.add(name);
+                        unitArt.add(new String[] { unit.group(3), unit.group(4), unit.group(5) });
+                        unitCounts.add(Integer.parseInt(unit.group(2)));
+                        break;
+                    case "beats":
+                        if (words.length != 4) {
+                            throw new IllegalArgumentException("Expected beats ATTACKER DEFENDER POINTS: " + line);
+                        }
+                        beatsLines.add(words);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown rule: " + line);
+                }
+            } catch (ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Missing value: " + line);
+            }
+        }
+
+        if (columns < 1 || columns > MAX_COLUMNS) {
+            throw new IllegalArgumentException("Columns must be between 1 and " + MAX_COLUMNS);
+        }
+        if (winScore < 1 || lastRound < 1) {
+            throw new IllegalArgumentException("Win score and last round must be positive");
+        }
+        int deckSize = 0;
+        for (int count : unitCounts) {
+            deckSize += count;
+        }
+        if (deckSize < 2 * columns) {
+            throw new IllegalArgumentException("Deck has " + deckSize + " cards, " + (2 * columns) + " needed");
+        }
+
+        // Units can be declared after the beats lines that mention them, so resolve names last
+        List<int[]> beats = new ArrayList<>();
+        for (String[] words : beatsLines) {
+            beats.add(new int[] { unitId(unitNames, words[1]), unitId(unitNames, words[2]),
+                    Integer.parseInt(words[3]) });
+        }
+
+        return new GameRules(columns, winScore, lastRound, unitNames, unitArt, unitCounts, beats);
+    }
+
+    private static int unitId(List<String> unitNames, String name) {
+        if (name.equals("*")) {
+            return -1;
+        }
+        int index = unitNames.indexOf(name.toUpperCase());
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown unit: " + name);
+        }
+        return index + 1;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getWinScore() {
+        return winScore;
+    }
+
+    public int getLastRound() {
+        return lastRound;
+    }
+
+    public boolean canDefeat(int atk, int def) {
+        return defeats[atk * stride + def];
+    }
+
+    public int points(int atk, int def) {
+        return points[atk * stride + def];
+    }
+
+    public String unitName(int unit) {
+        return names[unit];
+    }
+
+    public String cardLine(int unit, int line) {
+        return cardLines[line][unit];
+    }
+
+    // Fills the given array with the deck composition, each unit repeated by its count
+    public void fillDeck(int[] target) {
+        System.arraycopy(deck, 0, target, 0, deck.length);
+    }
+
+    public int getDeckSize() {
+        return deck.length;
+    }
+}
@@ -5,10 +5,10 @@ class GameSessionThread extends Thread {
     private Socket player1, player2;
     private GameState gameState;
 
-    public GameSessionThread(Socket p1, Socket p2) {
+    public GameSessionThread(Socket p1, Socket p2, GameRules rules) {
         this.player1 = p1;
         this.player2 = p2;
-        this.gameState = new GameState(true);
+        this.gameState = new GameState(true, System.currentTimeMillis(), rules);
     }
 
     public void run() {
@@ -32,7 +32,8 @@ class GameSessionThread extends Thread {
                     break;
                 }
 
-                input = input.trim().toUpperCase();
+                // GameState upper-cases the command itself
+                input = input.trim();
                 boolean validMove = gameState.processCommand(input);
 
                 // Always send updated frames to both players
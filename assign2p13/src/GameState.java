@@ -1,57 +1,59 @@
 import java.util.*;
 
 class GameState {
-    public enum Unit {
-        AXE, HAMMER, SWORD, ARROW, EMPTY
-    }
-
-    private List<Unit> deck = new ArrayList<>();
-    private Unit[] board1 = new Unit[6];
-    private Unit[] board2 = new Unit[6];
+    // Units are ids into the rules tables, GameRules.EMPTY marks an empty slot
+    private final GameRules rules;
+    private final Random rng;
+    private final int[] deck;
+    private final int[] board1;
+    private final int[] board2;
     private int score1 = 0, score2 = 0;
     private int round = 1;
     private int turn = 0;
     private int passCount = 0;
-    private Unit lastAttacker = null;
-    private Unit lastDefender = null;
+    private int lastAttacker = GameRules.EMPTY;
+    private int lastDefender = GameRules.EMPTY;
     private boolean moveJustMade = false;
     private boolean isPlayer1;
 
+    // Frame parts that only depend on the board width
+    private int boxWidth;
+    private String boxTop, boxBottom, columnHeader, columnLabels, cardTops, cardBottoms, scorePadding, roundDivider;
+
     public GameState(boolean isPlayer1) {
         this(isPlayer1, System.currentTimeMillis());
     }
 
     public GameState(boolean isPlayer1, long seed) {
+        this(isPlayer1, seed, GameRules.standard());
+    }
+
+    public GameState(boolean isPlayer1, long seed, GameRules rules) {
         this.isPlayer1 = isPlayer1;
-        // Create deck with exactly 3 of each card type
-        for (int i = 0; i < 3; i++) {
-            deck.add(Unit.AXE);
-            deck.add(Unit.HAMMER);
-            deck.add(Unit.SWORD);
-            deck.add(Unit.ARROW);
-        }
-        Random rng = new Random(seed);
-        Collections.shuffle(deck, rng);
-        for (int i = 0; i < 6; i++) {
-            board1[i] = deck.remove(0);
-            board2[i] = deck.remove(0);
-        }
+        this.rules = rules;
+        this.rng = new Random(seed);
+        this.deck = new int[rules.getDeckSize()];
+        this.board1 = new int[rules.getColumns()];
+        this.board2 = new int[rules.getColumns()];
+        dealBoards();
+        buildFrameParts();
     }
 
     public boolean applyMove(char from, char to) {
         int fromIdx = from - 'A';
         int toIdx = to - 'A';
+        int columns = board1.length;
 
         // Validate indices
-        if (fromIdx < 0 || fromIdx >= 6 || toIdx < 0 || toIdx >= 6) {
+        if (fromIdx < 0 || fromIdx >= columns || toIdx < 0 || toIdx >= columns) {
             moveJustMade = false;
-            lastAttacker = null;
-            lastDefender = null;
+            lastAttacker = GameRules.EMPTY;
+            lastDefender = GameRules.EMPTY;
             return false;
         }
 
         // Get the units based on whose turn it is
-        Unit atk, def;
+        int atk, def;
         if (turn == 0) { // Player 1's turn
             atk = board1[fromIdx];
             def = board2[toIdx];
@@ -64,8 +66,8 @@ class GameState {
         lastAttacker = atk;
         lastDefender = def;
 
-        // Check if the move is valid
-        if (atk == Unit.EMPTY || !canDefeat(atk, def)) {
+        // Check if the move is valid, empty slots never defeat or get defeated
+        if (!rules.canDefeat(atk, def)) {
             moveJustMade = false;
             return false;
         }
@@ -75,19 +77,16 @@ class GameState {
 
         // Remove the defender's card based on whose turn it is
         if (turn == 0) { // Player 1 attacking Player 2
-            board2[toIdx] = Unit.EMPTY;
+            board2[toIdx] = GameRules.EMPTY;
         } else { // Player 2 attacking Player 1
-            board1[toIdx] = Unit.EMPTY;
+            board1[toIdx] = GameRules.EMPTY;
         }
 
-        // Score points only for non-ARROW victories
-        // If either unit is an ARROW, no points are scored
-        if (atk != Unit.ARROW && def != Unit.ARROW) {
-            if (turn == 0) { // Player 1's turn
-                score1++;
-            } else { // Player 2's turn
-                score2++;
-            }
+        // Score the points the rules give for this matchup (none for ARROW in the standard game)
+        if (turn == 0) { // Player 1's turn
+            score1 += rules.points(atk, def);
+        } else { // Player 2's turn
+            score2 += rules.points(atk, def);
         }
 
         turn = 1 - turn; // Switch turns after a successful move
@@ -95,37 +94,10 @@ class GameState {
         return true;
     }
 
-    private boolean canDefeat(Unit atk, Unit def) {
-        // If either unit is empty, no defeat is possible
-        if (atk == Unit.EMPTY || def == Unit.EMPTY) {
-            return false;
-        }
-
-        // Special case: Arrow can eliminate any unit, and any unit can eliminate arrow
-        if (atk == Unit.ARROW || def == Unit.ARROW) {
-            return true;
-        }
-
-        // Normal unit interactions - cyclic relationship:
-        // AXE defeats HAMMER
-        // HAMMER defeats SWORD
-        // SWORD defeats AXE
-        switch (atk) {
-            case AXE:
-                return def == Unit.HAMMER; // "cuts true; straight through the handle of the hammer"
-            case HAMMER:
-                return def == Unit.SWORD; // "is power; it overwhelms the sword"
-            case SWORD:
-                return def == Unit.AXE; // "is nimble; it dances about the axe"
-            default:
-                return false;
-        }
-    }
-
     public void passTurn() {
         moveJustMade = false;
-        lastAttacker = null;
-        lastDefender = null;
+        lastAttacker = GameRules.EMPTY;
+        lastDefender = GameRules.EMPTY;
 
         // If we're at passCount 2 (NEW ROUND showing), reset it so we can start passing
         // again
@@ -149,38 +121,35 @@ class GameState {
     }
 
     private void dealNewRound() {
-        // Clear both boards
-        for (int i = 0; i < 6; i++) {
-            board1[i] = Unit.EMPTY;
-            board2[i] = Unit.EMPTY;
-        }
+        dealBoards();
+        moveJustMade = false; // Reset move flag for new round
+    }
 
-        // Create and shuffle new deck with exactly 3 of each card type
-        deck.clear();
-        for (int i = 0; i < 3; i++) {
-            deck.add(Unit.AXE);
-            deck.add(Unit.HAMMER);
-            deck.add(Unit.SWORD);
-            deck.add(Unit.ARROW);
+    private void dealBoards() {
+        // Refill the deck from the rules and shuffle it in place, the same way Collections.shuffle does
+        rules.fillDeck(deck);
+        for (int i = deck.length; i > 1; i--) {
+            int j = rng.nextInt(i);
+            int card = deck[i - 1];
+            deck[i - 1] = deck[j];
+            deck[j] = card;
         }
-        Collections.shuffle(deck);
 
-        // Deal 6 cards to each player
-        for (int i = 0; i < 6; i++) {
-            board1[i] = deck.remove(0);
-            board2[i] = deck.remove(0);
+        // Deal one card per column to each player, alternating like dealing from the top
+        for (int i = 0; i < board1.length; i++) {
+            board1[i] = deck[2 * i];
+            board2[i] = deck[2 * i + 1];
         }
-        moveJustMade = false; // Reset move flag for new round
     }
 
     public boolean isGameOver() {
-        // Game ends if either player reaches 9 points
-        if (score1 >= 9 || score2 >= 9) {
+        // Game ends if either player reaches the winning score
+        if (score1 >= rules.getWinScore() || score2 >= rules.getWinScore()) {
             return true;
         }
 
-        // Game ends if round 5 is reached
-        if (round >= 5) {
+        // Game ends if the last round is reached
+        if (round >= rules.getLastRound()) {
             return true;
         }
 
@@ -192,17 +161,18 @@ class GameState {
     }
 
     public String generateFrame(boolean isPlayer1) {
+        int columns = board1.length;
         StringBuilder sb = new StringBuilder();
 
         // Required header to establish frame start
-        sb.append("/----------------------------------------\\\n");
+        sb.append(boxTop);
 
         // Column headers with proper spacing
-        sb.append("    A    B    C    D    E    F             |\n");
+        sb.append(columnHeader);
 
         // Always show current player's board at bottom and opponent's board at top
-        Unit[] top = isPlayer1 ? board2 : board1;
-        Unit[] bot = isPlayer1 ? board1 : board2;
+        int[] top = isPlayer1 ? board2 : board1;
+        int[] bot = isPlayer1 ? board1 : board2;
         int topScore = isPlayer1 ? score2 : score1;
         int botScore = isPlayer1 ? score1 : score2;
 
@@ -231,140 +201,108 @@ class GameState {
         }
 
         // Top board
-        sb.append("  /---\\");
-        for (int i = 1; i < 6; i++) {
-            sb.append("/---\\");
-        }
-        sb.append("      " + topArrow + "\n");
-
-        // First line of cards
-        sb.append("  ");
-        for (int i = 0; i < 6; i++) {
-            sb.append(getCardFirstLine(top[i]));
-        }
-        sb.append("      " + midArrow + "\n");
-
-        // Second line of cards
-        sb.append("  ");
-        for (int i = 0; i < 6; i++) {
-            sb.append(getCardSecondLine(top[i]));
-        }
-        sb.append("      " + midArrow + "\n");
+        sb.append(cardTops).append("      " + topArrow + "\n");
 
-        // Third line of cards
-        sb.append("  ");
-        for (int i = 0; i < 6; i++) {
-            sb.append(getCardThirdLine(top[i]));
+        // Three lines of cards
+        for (int line = 0; line < 3; line++) {
+            sb.append("  ");
+            for (int i = 0; i < columns; i++) {
+                sb.append(rules.cardLine(top[i], line));
+            }
+            sb.append("      " + midArrow + "\n");
         }
-        sb.append("      " + midArrow + "\n");
 
         // Bottom borders of cards
-        sb.append("  \\---/");
-        for (int i = 1; i < 6; i++) {
-            sb.append("\\---/");
-        }
-        sb.append("\n");
+        sb.append(cardBottoms).append("\n");
 
         // Scores and round number
-        sb.append(String.format("|%40s[%d]\n", "", topScore));
-        sb.append("<====================================R" + round + "\n");
-        sb.append(String.format("|%40s[%d]\n", "", botScore));
+        sb.append(scorePadding).append("[").append(topScore).append("]\n");
+        sb.append(roundDivider).append(round).append("\n");
+        sb.append(scorePadding).append("[").append(botScore).append("]\n");
 
         // Bottom board
-        sb.append("  /---\\");
-        for (int i = 1; i < 6; i++) {
-            sb.append("/---\\");
-        }
-        sb.append("      " + midArrow + "\n");
-
-        // First line of cards
-        sb.append("  ");
-        for (int i = 0; i < 6; i++) {
-            sb.append(getCardFirstLine(bot[i]));
-        }
-        sb.append("      " + midArrow + "\n");
+        sb.append(cardTops).append("      " + midArrow + "\n");
 
-        // Second line of cards
-        sb.append("  ");
-        for (int i = 0; i < 6; i++) {
-            sb.append(getCardSecondLine(bot[i]));
-        }
-        sb.append("      " + midArrow + "\n");
-
-        // Third line of cards
-        sb.append("  ");
-        for (int i = 0; i < 6; i++) {
-            sb.append(getCardThirdLine(bot[i]));
+        // Three lines of cards, the last one carries the bottom of the turn arrow
+        for (int line = 0; line < 3; line++) {
+            sb.append("  ");
+            for (int i = 0; i < columns; i++) {
+                sb.append(rules.cardLine(bot[i], line));
+            }
+            sb.append("      " + (line == 2 ? botArrow : midArrow) + "\n");
         }
-        sb.append("      " + botArrow + "\n");
 
         // Bottom borders of cards
-        sb.append("  \\---/");
-        for (int i = 1; i < 6; i++) {
-            sb.append("\\---/");
-        }
-        sb.append("\n");
+        sb.append(cardBottoms).append("\n");
 
         // Column labels
-        sb.append("  A    B    C    D    E    F\n");
+        sb.append(columnLabels);
 
         // Single message box
-        sb.append("/----------------------------------------\\\n");
+        sb.append(boxTop);
         String message = getLastMoveMessage();
-        if (!message.isEmpty()) {
-            // Center the message in the 40-character width box
-            sb.append(String.format("|%-40s|\n", String.format(
-                    "%" + (20 + message.length() / 2) + "s%" + (20 - message.length() / 2) + "s", message, "")));
-        } else {
-            sb.append("|                                        |\n");
-        }
-        sb.append("\\----------------------------------------/\n");
+        // Center the message in the box, slightly left of center for odd lengths
+        int left = Math.max(0, boxWidth / 2 - (message.length() - message.length() / 2));
+        int right = Math.max(0, boxWidth - message.length() - left);
+        sb.append("|");
+        appendRepeated(sb, ' ', left);
+        sb.append(message);
+        appendRepeated(sb, ' ', right);
+        sb.append("|\n");
+        sb.append(boxBottom);
 
         return sb.toString();
     }
 
-    private String getCardFirstLine(Unit u) {
-        switch (u) {
-            case AXE:
-                return "|<7>|";
-            case HAMMER:
-                return "|[=]|";
-            case SWORD:
-                return "|  /|";
-            case ARROW:
-                return "| ^ |";
-            default:
-                return "|   |";
+    // The frame parts that only depend on the board width, built once per game
+    private void buildFrameParts() {
+        int columns = board1.length;
+        boxWidth = 5 * columns + 10;
+
+        StringBuilder sb = new StringBuilder("/");
+        appendRepeated(sb, '-', boxWidth);
+        boxTop = sb.append("\\\n").toString();
+
+        sb = new StringBuilder("\\");
+        appendRepeated(sb, '-', boxWidth);
+        boxBottom = sb.append("/\n").toString();
+
+        sb = new StringBuilder("   ");
+        for (int i = 0; i < columns; i++) {
+            sb.append(i == 0 ? " " : "    ").append((char) ('A' + i));
         }
-    }
+        columnHeader = sb.append("             |\n").toString();
 
-    private String getCardSecondLine(Unit u) {
-        switch (u) {
-            case AXE:
-                return "| I |";
-            case HAMMER:
-                return "| | |";
-            case SWORD:
-                return "| / |";
-            case ARROW:
-                return "| | |";
-            default:
-                return "|   |";
+        sb = new StringBuilder(" ");
+        for (int i = 0; i < columns; i++) {
+            sb.append(i == 0 ? " " : "    ").append((char) ('A' + i));
         }
+        columnLabels = sb.append("\n").toString();
+
+        sb = new StringBuilder("  ");
+        for (int i = 0; i < columns; i++) {
+            sb.append("/---\\");
+        }
+        cardTops = sb.toString();
+
+        sb = new StringBuilder("  ");
+        for (int i = 0; i < columns; i++) {
+            sb.append("\\---/");
+        }
+        cardBottoms = sb.toString();
+
+        sb = new StringBuilder("|");
+        appendRepeated(sb, ' ', boxWidth);
+        scorePadding = sb.toString();
+
+        sb = new StringBuilder("<");
+        appendRepeated(sb, '=', boxWidth - 4);
+        roundDivider = sb.append("R").toString();
     }
 
-    private String getCardThirdLine(Unit u) {
-        switch (u) {
-            case AXE:
-                return "| L |";
-            case HAMMER:
-                return "| | |";
-            case SWORD:
-                return "|X  |";
-            case ARROW:
-                return "|/^\\|";
-            default:
-                return "|   |";
+    private static void appendRepeated(StringBuilder sb, char c, int count) {
+        for (int i = 0; i < count; i++) {
+            sb.append(c);
         }
     }
 
@@ -390,9 +328,9 @@ class GameState {
         }
 
         // If a move was just made, show the move
-        if (moveJustMade && lastAttacker != null && lastDefender != null) {
-            String attackerName = unitToName(lastAttacker);
-            String defenderName = unitToName(lastDefender);
+        if (moveJustMade && lastAttacker != GameRules.EMPTY && lastDefender != GameRules.EMPTY) {
+            String attackerName = rules.unitName(lastAttacker);
+            String defenderName = rules.unitName(lastDefender);
             String playerNum = (turn == 1) ? "PLAYER 1" : "PLAYER 2";
             return playerNum + ": " + attackerName + " TAKES " + defenderName;
         }
@@ -401,29 +339,14 @@ class GameState {
         return "";
     }
 
-    private String unitToName(Unit u) {
-        switch (u) {
-            case AXE:
-                return "AXE";
-            case HAMMER:
-                return "HAMMER";
-            case SWORD:
-                return "SWORD";
-            case ARROW:
-                return "ARROW";
-            default:
-                return "EMPTY";
-        }
-    }
-
     private String getGameOverMessage() {
-        if (score1 >= 9) {
+        if (score1 >= rules.getWinScore()) {
             return "GAME OVER - PLAYER 1 WINS WITH " + score1 + " POINTS!";
         }
-        if (score2 >= 9) {
+        if (score2 >= rules.getWinScore()) {
             return "GAME OVER - PLAYER 2 WINS WITH " + score2 + " POINTS!";
         }
-        if (round >= 5) {
+        if (round >= rules.getLastRound()) {
             if (score1 == 0 && score2 == 0) {
                 return "GAME OVER - BOTH PLAYERS LOST)";
             }
@@ -432,7 +355,7 @@ class GameState {
             } else if (score2 > score1) {
                 return "GAME OVER - PLAYER 2 WINS WITH " + score2 + " POINTS!";
             } else {
-                return "GAME OVER - DRAW (TIED POINTS IN ROUND 5)";
+                return "GAME OVER - DRAW (TIED POINTS IN ROUND " + rules.getLastRound() + ")";
             }
         }
         return "Game Over!";
@@ -445,36 +368,40 @@ class GameState {
             return false;
         }
 
+        // Handle pass command, PASS works on any board
+        if (command != null && command.equalsIgnoreCase("PASS")) {
+            passTurn();
+            return true;
+        }
+
         // Handle empty or invalid length commands
         if (command == null || command.length() != 2) {
             moveJustMade = false;
-            lastAttacker = null;
-            lastDefender = null;
+            lastAttacker = GameRules.EMPTY;
+            lastDefender = GameRules.EMPTY;
             return false;
         }
 
-        // Convert to uppercase for canonical processing
-        command = command.toUpperCase();
+        // Convert to uppercase for canonical processing, per character so no new string is made
+        char from = Character.toUpperCase(command.charAt(0));
+        char to = Character.toUpperCase(command.charAt(1));
+        char lastColumn = (char) ('A' + board1.length - 1);
 
-        // Handle pass command
-        if (command.equals("PS")) {
+        // PS is also a pass, as long as the board is too narrow for it to be an attack on column S
+        if (from == 'P' && to == 'S' && lastColumn < 'S') {
             passTurn();
             return true;
         }
 
-        // Handle move command
-        char from = command.charAt(0);
-        char to = command.charAt(1);
-
         // Check if characters are valid column letters
-        if (from < 'A' || from > 'F' || to < 'A' || to > 'F') {
+        if (from < 'A' || from > lastColumn || to < 'A' || to > lastColumn) {
             moveJustMade = false;
-            lastAttacker = null;
-            lastDefender = null;
+            lastAttacker = GameRules.EMPTY;
+            lastDefender = GameRules.EMPTY;
             return false;
         }
 
         // Process the move immediately if it's the player's turn
         return applyMove(from, to);
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+class SocketSplicer extends Thread {
+    private static final int BUFFER_SIZE = 8192;
+
+    private SocketChannel source, target;
+
+    public SocketSplicer(SocketChannel source, SocketChannel target) {
+        this.source = source;
+        this.target = target;
+        setDaemon(true);
+    }
+
+    // Starts one splicer per direction between the client and the backend
+    public static void splice(SocketChannel client, SocketChannel backend) {
+        new SocketSplicer(client, backend).start();
+        new SocketSplicer(backend, client).start();
+    }
+
+    public void run() {
+        // Direct buffer so bytes go channel to channel without a copy through the Java heap
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try {
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            // The other direction closing the channels ends up here as well
+        } finally {
+            // Either side going away ends the whole connection
+            close(source);
+            close(target);
+        }
+    }
+
+    private static void close(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.out.println("Error closing channel: " + e.getMessage());
+        }
+    }
+}